@@ -2,6 +2,7 @@ package com.gartland.fiftytwobooktracker.controller;
 
 import com.gartland.fiftytwobooktracker.model.Book;
 import com.gartland.fiftytwobooktracker.service.BookService;
+import com.gartland.fiftytwobooktracker.service.IdempotencyService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,32 +20,44 @@ import java.util.UUID;
 @RequestMapping("/api/books")
 public class BookController {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final BookService bookService;
+    private final IdempotencyService idempotencyService;
 
     /**
-     * Constructs a BookController with the given BookService.
+     * Constructs a BookController with the given services.
      *
      * @param bookService The service handling book operations.
+     * @param idempotencyService The service deduplicating retried create requests.
      */
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, IdempotencyService idempotencyService) {
         this.bookService = bookService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * Endpoint to create a new book with an image upload.
+     * When an Idempotency-Key header is supplied, retries with the same key return
+     * the originally created book without uploading or saving again.
      *
      * @param title The title of the book.
      * @param author The author of the book.
      * @param status The reading status of the book.
      * @param imageFile The image file associated with the book.
-     * @return The created book entity.
+     * @param idempotencyKey Optional client supplied key identifying this create request.
+     * @return The created book entity, 400 Bad Request for an invalid key,
+     *         409 Conflict if the first request with the key is still in progress,
+     *         422 Unprocessable Entity if the key was used with a different payload,
+     *         or 410 Gone if the book created for the key has since been deleted.
      */
     @PostMapping(consumes = "multipart/form-data")
     public ResponseEntity<Book> createBook(
             @RequestParam("title") String title,
             @RequestParam("author") String author,
             @RequestParam("status") String status,
-            @RequestParam(value = "imageFile", required = false) MultipartFile imageFile) {
+            @RequestParam(value = "imageFile", required = false) MultipartFile imageFile,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 
         Book book = Book.builder()
                 .title(title)
@@ -52,8 +65,24 @@ public class BookController {
                 .status(Book.Status.valueOf(status))
                 .build();
 
-        Book savedBook = bookService.saveBook(book, imageFile);
-        return new ResponseEntity<>(savedBook, HttpStatus.CREATED);
+        if (idempotencyKey == null) {
+            Book savedBook = bookService.saveBook(book, imageFile);
+            return new ResponseEntity<>(savedBook, HttpStatus.CREATED);
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        String fingerprint = IdempotencyService.fingerprint(imageFile, title, author, status);
+        Optional<Book> savedBook = idempotencyService.execute(idempotencyKey, fingerprint,
+                onSaved -> bookService.saveBook(book, imageFile, onSaved));
+
+        if (savedBook.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.GONE);
+        }
+
+        return new ResponseEntity<>(savedBook.get(), HttpStatus.CREATED);
     }
 
     /**
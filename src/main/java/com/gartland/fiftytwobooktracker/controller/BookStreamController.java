@@ -0,0 +1,42 @@
+package com.gartland.fiftytwobooktracker.controller;
+
+import com.gartland.fiftytwobooktracker.service.BookStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller streaming book changes to clients over Server-Sent Events.
+ * Lets clients keep their library up to date without polling the book list.
+ */
+@RestController
+@RequestMapping("/api/books/events")
+public class BookStreamController {
+
+    private final BookStreamService bookStreamService;
+
+    /**
+     * Constructs a BookStreamController with the given BookStreamService.
+     *
+     * @param bookStreamService The service managing event stream connections.
+     */
+    public BookStreamController(BookStreamService bookStreamService) {
+        this.bookStreamService = bookStreamService;
+    }
+
+    /**
+     * Endpoint to subscribe to book-created, book-updated and book-deleted events.
+     * Browsers reconnecting after a dropped connection send the ID of the last event they received,
+     * and are first sent the events they missed.
+     *
+     * @param lastEventId Optional ID of the last event the client received.
+     * @return An open event stream, or 503 Service Unavailable if the pod has no free connections.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return bookStreamService.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,39 @@
+package com.gartland.fiftytwobooktracker.controller;
+
+import com.gartland.fiftytwobooktracker.exception.IdempotencyKeyException;
+import com.gartland.fiftytwobooktracker.exception.RateLimitExceededException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Translates exceptions raised while handling requests into HTTP responses.
+ */
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    /**
+     * Handles requests shed because a rate or concurrency budget was exhausted.
+     *
+     * @param e The exception describing the exhausted budget.
+     * @return An empty response with the exception's status and a Retry-After header.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Void> handleRateLimitExceeded(RateLimitExceededException e) {
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+    }
+
+    /**
+     * Handles create requests whose Idempotency-Key cannot be honoured.
+     *
+     * @param e The exception describing the problem with the key.
+     * @return An empty response with the exception's status.
+     */
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<Void> handleIdempotencyKey(IdempotencyKeyException e) {
+        return ResponseEntity.status(e.getStatus()).build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.gartland.fiftytwobooktracker.event;
+
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A published change to a book, as delivered to outbox sinks and in-process listeners.
+ *
+ * @param id The sequential outbox event ID, by which consumers order and deduplicate events.
+ * @param eventType The kind of change.
+ * @param bookId The ID of the changed book.
+ * @param payload JSON representation of the book after the change.
+ * @param occurredAt Timestamp of when the change was made.
+ */
+public record BookChangeEvent(
+        long id,
+        OutboxEvent.EventType eventType,
+        UUID bookId,
+        String payload,
+        LocalDateTime occurredAt) {
+
+    /**
+     * Creates a BookChangeEvent from a stored outbox event.
+     *
+     * @param event The outbox event.
+     * @return The corresponding change event.
+     */
+    public static BookChangeEvent from(OutboxEvent event) {
+        return new BookChangeEvent(
+                event.getId(),
+                event.getEventType(),
+                event.getBookId(),
+                event.getPayload(),
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,31 @@
+package com.gartland.fiftytwobooktracker.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Outbox sink that republishes book change events as Spring application events.
+ * Used for testing and for in-process consumers; a broker-backed sink can replace it
+ * by registering another OutboxSink bean marked as primary.
+ */
+@Component
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs the InProcessOutboxSink with the given publisher.
+     *
+     * @param eventPublisher The publisher delivering events to application listeners.
+     */
+    public InProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<BookChangeEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,21 @@
+package com.gartland.fiftytwobooktracker.event;
+
+import java.util.List;
+
+/**
+ * Destination the outbox relay publishes book change events to.
+ * Implementations must be safe to call again with the same events, since delivery is at-least-once.
+ * Order is not guaranteed across batches: replicas publish different batches concurrently, and an
+ * event committed late is published after events with higher IDs. Consumers that need order must
+ * order and deduplicate by {@link BookChangeEvent#id()}.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes a batch of events, sorted by ID within the batch.
+     * Throwing leaves the whole batch pending so that it is retried on the next relay run.
+     *
+     * @param events The events to publish.
+     */
+    void publish(List<BookChangeEvent> events);
+}
@@ -0,0 +1,26 @@
+package com.gartland.fiftytwobooktracker.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request cannot be answered for its Idempotency-Key.
+ * Carries the status to respond with: 422 if the key was used with a different payload,
+ * or 409 if the first request with the key is still in progress on another replica.
+ */
+@Getter
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param status The HTTP status to respond with.
+     * @param message A description of the problem with the key.
+     */
+    public IdempotencyKeyException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+}
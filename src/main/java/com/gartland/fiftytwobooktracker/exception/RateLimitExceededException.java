@@ -0,0 +1,28 @@
+package com.gartland.fiftytwobooktracker.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a request is rejected because a rate or concurrency budget is exhausted.
+ * Carries the status to respond with (429 or 503) and the Retry-After hint in seconds.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param status The HTTP status to respond with.
+     * @param retryAfterSeconds The number of seconds the client should wait before retrying.
+     * @param message A description of the exhausted budget.
+     */
+    public RateLimitExceededException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
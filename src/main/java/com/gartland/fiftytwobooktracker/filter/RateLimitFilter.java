@@ -0,0 +1,93 @@
+package com.gartland.fiftytwobooktracker.filter;
+
+import com.gartland.fiftytwobooktracker.exception.RateLimitExceededException;
+import com.gartland.fiftytwobooktracker.service.RateLimitService;
+import com.gartland.fiftytwobooktracker.service.RateLimitService.Budget;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter applying rate and concurrency limits to the expensive book endpoints.
+ * Runs before the multipart body is parsed, so rejected uploads are shed cheaply
+ * with 429 Too Many Requests or 503 Service Unavailable and a Retry-After header.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String BOOKS_PATH = "/api/books";
+
+    private final RateLimitService rateLimitService;
+
+    /**
+     * Constructs the RateLimitFilter with the given RateLimitService.
+     *
+     * @param rateLimitService The service holding the limiter state.
+     */
+    public RateLimitFilter(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Budget budget = budgetFor(request);
+        if (budget == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try {
+            rateLimitService.checkRate(budget, clientId(request));
+            try (RateLimitService.Permit permit = rateLimitService.acquire(budget)) {
+                chain.doFilter(request, response);
+            }
+        } catch (RateLimitExceededException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.setStatus(e.getStatus().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        }
+    }
+
+    /**
+     * Maps a request to the budget it consumes.
+     * The path is resolved the way the dispatcher routes it, decoded and without matrix parameters,
+     * so that variants such as {@code /api/books;x=1} or {@code /api/%62ooks} cannot skip the limits.
+     *
+     * @return The budget, or null if the request is not limited.
+     */
+    private static Budget budgetFor(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+        if (!BOOKS_PATH.equals(path) && !(BOOKS_PATH + "/").equals(path)) {
+            return null;
+        }
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return Budget.LIST;
+        }
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            return Budget.UPLOAD;
+        }
+        return null;
+    }
+
+    /**
+     * Identifies the client by its remote address.
+     * X-Forwarded-For is never read here, since any client can set it. When the app sits behind
+     * a proxy, Tomcat's RemoteIpValve ({@code server.forward-headers-strategy=native}) rewrites the
+     * remote address to the rightmost hop not listed in {@code server.tomcat.remoteip.internal-proxies}.
+     */
+    private static String clientId(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
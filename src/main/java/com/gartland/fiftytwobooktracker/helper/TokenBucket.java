@@ -0,0 +1,63 @@
+package com.gartland.fiftytwobooktracker.helper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket used to rate limit a single client.
+ * The bucket holds up to {@code capacity} tokens and refills continuously at a fixed rate.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Constructs a full TokenBucket.
+     *
+     * @param capacity The maximum number of tokens, i.e. the allowed burst size.
+     * @param refillPerSecond The number of tokens added per second.
+     * @param nanoClock The source of monotonic time in nanoseconds.
+     */
+    public TokenBucket(long capacity, double refillPerSecond, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Attempts to take one token from the bucket.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available.
+     */
+    public synchronized long tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Checks whether the bucket has refilled completely, meaning the client has been idle.
+     *
+     * @return true if the bucket is full.
+     */
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
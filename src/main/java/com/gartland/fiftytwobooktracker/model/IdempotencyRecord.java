@@ -0,0 +1,89 @@
+package com.gartland.fiftytwobooktracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity class recording a create request sent with an Idempotency-Key header.
+ * The key is claimed before any work starts and completed with the created book's ID
+ * in the same transaction that saves the book. A retried request carrying the same key
+ * is answered with the book referenced here.
+ * Records are always inserted, never merged, so a duplicate key fails on its primary key.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    /**
+     * The client supplied idempotency key.
+     */
+    @Id
+    @Column(name = "idempotency_key", nullable = false, updatable = false)
+    private String idempotencyKey;
+
+    /**
+     * Hash of the request the key was first used with, so reuse with a different payload is rejected.
+     * Empty for keys stored before fingerprints were recorded, which are not checked.
+     */
+    @Column(nullable = false, updatable = false, length = 64)
+    private String requestFingerprint;
+
+    /**
+     * ID of the book created by the first request carrying this key, null while that request is in progress.
+     */
+    @Column
+    private UUID bookId;
+
+    /**
+     * Timestamp of when the key was first recorded.
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Whether the record has not been stored yet.
+     */
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Method called before the entity is persisted for the first time.
+     * Initializes the creation timestamp.
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Method called after the entity is loaded or stored.
+     * Marks the record as no longer new.
+     */
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,77 @@
+package com.gartland.fiftytwobooktracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entity class representing a book change waiting to be published to downstream consumers.
+ * Events are written in the same transaction as the change itself and published later by the relay.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+
+    /**
+     * Sequential identifier, by which consumers order events.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID of the book the event refers to.
+     */
+    @Column(nullable = false, updatable = false)
+    private UUID bookId;
+
+    /**
+     * Kind of change the event describes.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private EventType eventType;
+
+    /**
+     * JSON representation of the book after the change.
+     */
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * Timestamp of when the change was made.
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Timestamp of when the event was published, null while pending.
+     */
+    @Column
+    private LocalDateTime publishedAt;
+
+    /**
+     * Method called before the entity is persisted for the first time.
+     * Initializes the creation timestamp.
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Enumeration representing the kind of change made to a book.
+     */
+    public enum EventType {
+        BOOK_CREATED, BOOK_UPDATED, BOOK_DELETED
+    }
+}
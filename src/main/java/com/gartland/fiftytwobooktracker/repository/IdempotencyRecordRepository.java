@@ -0,0 +1,67 @@
+package com.gartland.fiftytwobooktracker.repository;
+
+import com.gartland.fiftytwobooktracker.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Repository interface for managing IdempotencyRecord entities.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Completes a claimed key with the ID of the book created for it.
+     * Runs in the caller's transaction, so the key is completed atomically with the book save.
+     * Matches nothing if the claim was released as abandoned and has since been completed by another request.
+     *
+     * @param key The claimed idempotency key.
+     * @param bookId The ID of the created book.
+     * @return The number of updated records.
+     */
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.bookId = :bookId where r.idempotencyKey = :key and r.bookId is null")
+    int completeClaim(@Param("key") String key, @Param("bookId") UUID bookId);
+
+    /**
+     * Releases a claim whose request failed before creating a book, so the key can be retried.
+     *
+     * @param key The claimed idempotency key.
+     * @return The number of deleted records.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.bookId is null")
+    int releaseClaim(@Param("key") String key);
+
+    /**
+     * Releases a claim left incomplete since before the cutoff, e.g. by a replica that crashed mid-request.
+     *
+     * @param key The claimed idempotency key.
+     * @param cutoff Claims made before this timestamp are considered abandoned.
+     * @return The number of deleted records.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :key and r.bookId is null and r.createdAt < :cutoff")
+    int releaseAbandonedClaim(@Param("key") String key, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Deletes all records created before the given cutoff in a single statement.
+     *
+     * @param cutoff Records older than this timestamp are removed.
+     * @return The number of deleted records.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
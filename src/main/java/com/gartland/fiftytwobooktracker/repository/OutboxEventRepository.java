@@ -0,0 +1,65 @@
+package com.gartland.fiftytwobooktracker.repository;
+
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing OutboxEvent entities.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks and returns the oldest unpublished events.
+     * Rows already locked by a relay on another replica are skipped rather than waited on.
+     *
+     * @param pageable The maximum number of events to return.
+     * @return The pending events in ID order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.publishedAt is null order by e.id")
+    List<OutboxEvent> lockPending(Pageable pageable);
+
+    /**
+     * Returns the events with an ID above the given one, in ID order, whether published or not.
+     * Used by each replica to tail the outbox independently of the relay.
+     *
+     * @param id The ID of the last event already seen.
+     * @param pageable The maximum number of events to return.
+     * @return The following events in ID order.
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    /**
+     * Returns the highest event ID, or 0 if the outbox is empty.
+     *
+     * @return The ID of the newest event.
+     */
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e")
+    long findMaxId();
+
+    /**
+     * Deletes published events older than the given cutoff in a single statement.
+     *
+     * @param cutoff Events published before this timestamp are removed.
+     * @return The number of deleted events.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from OutboxEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
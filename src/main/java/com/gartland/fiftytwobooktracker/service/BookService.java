@@ -1,48 +1,81 @@
 package com.gartland.fiftytwobooktracker.service;
 
 import com.gartland.fiftytwobooktracker.model.Book;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent.EventType;
 import com.gartland.fiftytwobooktracker.repository.BookRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Service for managing book data and file uploads.
  * Handles saving book information to the database and uploading images to S3.
+ * Every change is recorded in the outbox within the same transaction.
  */
 @Service
 public class BookService {
 
     private final BookRepository bookRepository;
     private final S3Service s3Service;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * Constructs a BookService with the given repository and S3 service.
+     * Constructs a BookService with the given repository and services.
      *
      * @param bookRepository The repository for managing book data.
      * @param s3Service The service for uploading images to S3.
+     * @param outboxService The service recording book change events.
+     * @param transactionTemplate Template saving a change and its event atomically.
      */
-    public BookService(BookRepository bookRepository, S3Service s3Service) {
+    public BookService(BookRepository bookRepository, S3Service s3Service,
+                       OutboxService outboxService, TransactionTemplate transactionTemplate) {
         this.bookRepository = bookRepository;
         this.s3Service = s3Service;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
      * Save a new book with an optional image upload.
+     * The image is uploaded before the transaction starts so that no database
+     * connection is held while waiting on S3.
      *
      * @param book The book entity to save.
      * @param imageFile The image file to upload to S3.
      * @return The saved book entity with S3 URL (if applicable).
      */
     public Book saveBook(Book book, MultipartFile imageFile) {
+        return saveBook(book, imageFile, savedBook -> { });
+    }
+
+    /**
+     * Save a book with an optional image upload, running the given callback
+     * inside the transaction that saves it.
+     *
+     * @param book The book entity to save.
+     * @param imageFile The image file to upload to S3.
+     * @param inTransaction Callback committed or rolled back together with the saved book.
+     * @return The saved book entity with S3 URL (if applicable).
+     */
+    public Book saveBook(Book book, MultipartFile imageFile, Consumer<Book> inTransaction) {
         if (imageFile != null && !imageFile.isEmpty()) {
             String s3Url = s3Service.uploadFile(imageFile);
             book.setImageUrl(s3Url);
         }
-        return bookRepository.save(book);
+
+        EventType eventType = book.getId() == null ? EventType.BOOK_CREATED : EventType.BOOK_UPDATED;
+        return transactionTemplate.execute(status -> {
+            Book savedBook = bookRepository.save(book);
+            outboxService.recordChange(eventType, savedBook);
+            inTransaction.accept(savedBook);
+            return savedBook;
+        });
     }
 
     /**
@@ -70,6 +103,9 @@ public class BookService {
      * @param id The unique identifier of the book to be deleted.
      */
     public void deleteBook(UUID id) {
-        bookRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            bookRepository.deleteById(id);
+            outboxService.recordDeletion(id);
+        });
     }
 }
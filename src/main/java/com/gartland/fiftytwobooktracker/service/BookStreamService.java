@@ -0,0 +1,392 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.event.BookChangeEvent;
+import com.gartland.fiftytwobooktracker.exception.RateLimitExceededException;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import com.gartland.fiftytwobooktracker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Service pushing book change events to clients connected over Server-Sent Events.
+ * Connections are held with async servlet requests, so idle clients do not occupy a thread.
+ * Each connection has a bounded buffer drained by a shared dispatcher pool; a client that falls
+ * too far behind, or whose write has been blocked for longer than {@code sse.write-timeout-ms},
+ * is disconnected and expected to reconnect with a Last-Event-ID header to catch up.
+ * <p>
+ * Only the thread draining a connection writes to or completes its emitter, since both
+ * synchronize on the emitter and would otherwise block behind a stuck write.
+ */
+@Service
+public class BookStreamService {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final OutboxEventRepository outboxEventRepository;
+    private final Executor dispatcher;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final int maxReplay;
+    private final long timeoutMs;
+    private final long writeTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final Counter evictions;
+    private volatile long lastDeliveredId;
+
+    /**
+     * Constructs the BookStreamService with the specified configuration.
+     *
+     * @param meterRegistry The registry the stream metrics are published to.
+     * @param outboxEventRepository The repository events are replayed from when a client resumes.
+     * @param dispatchThreads The maximum number of threads writing events to connections.
+     * @param maxSubscribers The maximum number of concurrent connections per pod.
+     * @param bufferSize The maximum number of undelivered events per connection.
+     * @param timeoutMs How long a connection is kept open before the client has to reconnect.
+     * @param writeTimeoutMs How long a single write may block before the connection is evicted.
+     */
+    @Autowired
+    public BookStreamService(
+            MeterRegistry meterRegistry,
+            OutboxEventRepository outboxEventRepository,
+            @Value("${sse.dispatch-threads:64}") int dispatchThreads,
+            @Value("${sse.max-subscribers:5000}") int maxSubscribers,
+            @Value("${sse.buffer-size:64}") int bufferSize,
+            @Value("${sse.timeout-ms:1800000}") long timeoutMs,
+            @Value("${sse.write-timeout-ms:5000}") long writeTimeoutMs) {
+        this(meterRegistry, outboxEventRepository, newDispatcher(dispatchThreads),
+                maxSubscribers, bufferSize, timeoutMs, writeTimeoutMs, System::nanoTime);
+    }
+
+    BookStreamService(MeterRegistry meterRegistry, OutboxEventRepository outboxEventRepository, Executor dispatcher,
+                      int maxSubscribers, int bufferSize, long timeoutMs, long writeTimeoutMs,
+                      LongSupplier nanoClock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.dispatcher = dispatcher;
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.maxReplay = Math.max(1, bufferSize / 2);
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        this.nanoClock = nanoClock;
+        Gauge.builder("sse.connections", subscribers, Set::size)
+                .description("Open book event stream connections")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("sse.evictions")
+                .description("Connections closed because the client fell behind or stopped reading")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a new event stream connection.
+     * A client resuming with the ID of the last event it received is first sent the events it missed.
+     * If it missed more than half a buffer's worth, it is sent a reset event instead and should reload
+     * the book list.
+     *
+     * @param lastEventId The ID of the last event the client received, or null for a new client.
+     * @return The emitter backing the connection.
+     * @throws RateLimitExceededException with 503 Service Unavailable if the pod has no free connections.
+     *         If the missed events cannot be read the connection is released and the error rethrown.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RateLimitExceededException(HttpStatus.SERVICE_UNAVAILABLE, 5,
+                    "Too many book event stream connections");
+        }
+
+        Subscriber subscriber = new Subscriber(createEmitter());
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        if (lastEventId != null) {
+            subscriber.held = new ArrayList<>();
+        }
+        subscribers.add(subscriber);
+
+        enqueue(subscriber, SseEmitter.event().comment("connected").build());
+        if (lastEventId != null) {
+            try {
+                replay(subscriber, lastEventId);
+            } catch (RuntimeException e) {
+                close(subscriber);
+                throw e;
+            }
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Pushes a book change to every client connected to this replica.
+     * Called by the {@link OutboxTailer}, which feeds each replica every event in ID order.
+     *
+     * @param event The change to push.
+     */
+    public void onBookChange(BookChangeEvent event) {
+        lastDeliveredId = event.id();
+        Set<DataWithMediaType> message = toMessage(event);
+        subscribers.forEach(subscriber -> enqueueEvent(subscriber, event.id(), message));
+    }
+
+    /**
+     * Records that every event up to the given ID has been seen, so that clients resuming from
+     * an earlier ID are replayed the events in between.
+     *
+     * @param eventId The ID of the newest event the tailer started from.
+     */
+    public void advanceTo(long eventId) {
+        lastDeliveredId = Math.max(lastDeliveredId, eventId);
+    }
+
+    /**
+     * Sends a heartbeat comment to idle connections, keeping proxies from closing them
+     * and detecting clients that have gone away.
+     */
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber) {
+                if (!subscriber.buffer.isEmpty()) {
+                    continue;
+                }
+            }
+            enqueue(subscriber, heartbeat);
+        }
+    }
+
+    /**
+     * Evicts connections whose current write has been blocked for longer than the write timeout,
+     * so no further events are queued for them. The blocked write itself is bounded by the
+     * servlet container's socket timeout, after which its dispatcher thread is freed.
+     */
+    @Scheduled(fixedDelayString = "${sse.write-timeout-ms:5000}")
+    public void evictStuckWriters() {
+        long now = nanoClock.getAsLong();
+        for (Subscriber subscriber : subscribers) {
+            long writeStartedAt = subscriber.writeStartedAt;
+            if (writeStartedAt != 0 && now - writeStartedAt > writeTimeoutNanos) {
+                evict(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Completes all open connections on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(this::close);
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /**
+     * Queues the events the client missed, then releases the live events held while replaying.
+     * Only events up to the last one delivered live are replayed, so that none is sent twice or skipped.
+     */
+    private void replay(Subscriber subscriber, long lastEventId) {
+        long replayTo = lastDeliveredId;
+        List<OutboxEvent> missed = lastEventId >= replayTo ? List.of()
+                : outboxEventRepository.findByIdGreaterThanOrderByIdAsc(lastEventId, PageRequest.of(0, maxReplay + 1))
+                        .stream()
+                        .filter(event -> event.getId() <= replayTo)
+                        .toList();
+
+        boolean schedule;
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            if (missed.size() > maxReplay) {
+                subscriber.buffer.add(SseEmitter.event().id(String.valueOf(replayTo)).name("reset").data("").build());
+            } else {
+                missed.forEach(event -> subscriber.buffer.add(toMessage(BookChangeEvent.from(event))));
+            }
+            subscriber.lastEventId = Math.max(lastEventId, replayTo);
+            for (HeldEvent held : subscriber.held) {
+                if (held.id() > subscriber.lastEventId) {
+                    subscriber.buffer.add(held.message());
+                    subscriber.lastEventId = held.id();
+                }
+            }
+            subscriber.held = null;
+            schedule = startDrain(subscriber);
+        }
+        if (schedule) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void enqueueEvent(Subscriber subscriber, long id, Set<DataWithMediaType> message) {
+        synchronized (subscriber) {
+            if (subscriber.held != null) {
+                subscriber.held.add(new HeldEvent(id, message));
+                return;
+            }
+            if (id <= subscriber.lastEventId) {
+                return;
+            }
+            subscriber.lastEventId = id;
+        }
+        enqueue(subscriber, message);
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> message) {
+        boolean schedule;
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            if (subscriber.buffer.size() >= bufferSize) {
+                evict(subscriber);
+                return;
+            }
+            subscriber.buffer.add(message);
+            schedule = startDrain(subscriber);
+        }
+        if (schedule) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Set<DataWithMediaType> message;
+            synchronized (subscriber) {
+                if (subscriber.closed) {
+                    break;
+                }
+                message = subscriber.buffer.poll();
+                if (message == null) {
+                    subscriber.draining = false;
+                    return;
+                }
+            }
+
+            subscriber.writeStartedAt = nanoClock.getAsLong();
+            try {
+                subscriber.emitter.send(message);
+            } catch (IOException | IllegalStateException e) {
+                synchronized (subscriber) {
+                    subscriber.closed = true;
+                }
+                subscribers.remove(subscriber);
+                return;
+            } finally {
+                subscriber.writeStartedAt = 0;
+            }
+        }
+        subscriber.emitter.complete();
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.contains(subscriber)) {
+            evictions.increment();
+        }
+        close(subscriber);
+    }
+
+    /**
+     * Stops queueing to a connection and has its dispatcher complete it once any write in progress returns.
+     */
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        boolean schedule;
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                return;
+            }
+            subscriber.closed = true;
+            subscriber.buffer.clear();
+            subscriber.held = null;
+            schedule = startDrain(subscriber);
+        }
+        if (schedule) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Marks the connection as being drained, returning whether a drain has to be scheduled.
+     * Must be called while holding the subscriber's monitor.
+     */
+    private static boolean startDrain(Subscriber subscriber) {
+        if (subscriber.draining) {
+            return false;
+        }
+        subscriber.draining = true;
+        return true;
+    }
+
+    private static Set<DataWithMediaType> toMessage(BookChangeEvent event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.id()))
+                .name(event.eventType().name().toLowerCase().replace('_', '-'))
+                .data(event.payload(), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    /**
+     * Creates the dispatcher pool. Threads are only started while connections have events to drain
+     * and are released after a minute idle, so the pool can be sized for the number of writes that
+     * may be blocked at once without holding that many idle threads.
+     */
+    private static ExecutorService newDispatcher(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * A live event received while the connection's missed events were being replayed.
+     */
+    private record HeldEvent(long id, Set<DataWithMediaType> message) {
+    }
+
+    /**
+     * State of a single connection. Guarded by its own monitor, except for the write start
+     * timestamp, which the watchdog reads without locking.
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Deque<Set<DataWithMediaType>> buffer = new ArrayDeque<>();
+        private List<HeldEvent> held;
+        private long lastEventId;
+        private boolean draining;
+        private boolean closed;
+        private volatile long writeStartedAt;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
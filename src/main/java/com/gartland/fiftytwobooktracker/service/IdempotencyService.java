@@ -0,0 +1,267 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.exception.IdempotencyKeyException;
+import com.gartland.fiftytwobooktracker.model.Book;
+import com.gartland.fiftytwobooktracker.model.IdempotencyRecord;
+import com.gartland.fiftytwobooktracker.repository.BookRepository;
+import com.gartland.fiftytwobooktracker.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Service for answering retried create requests without repeating their work.
+ * A key is claimed in the idempotency_keys table before the book is created, so only one
+ * replica ever uploads and saves for it, and the claim is completed in the book's transaction.
+ * Completed keys are held in a bounded in-memory cache of key to book ID, and concurrent
+ * requests with the same key on one replica are coalesced onto the first one in flight.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final BookRepository bookRepository;
+    private final long retentionHours;
+    private final long claimTimeoutSeconds;
+    private final Map<String, CompletedKey> completed;
+    private final Map<String, PendingKey> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates and saves a book, invoking the callback inside the transaction that saves it.
+     */
+    @FunctionalInterface
+    public interface CreateAction {
+        Book create(Consumer<Book> onSaved);
+    }
+
+    /**
+     * Constructs the IdempotencyService with the specified configuration.
+     *
+     * @param idempotencyRecordRepository The repository for stored idempotency keys.
+     * @param bookRepository The repository used to load the book a key refers to.
+     * @param maxCachedKeys The maximum number of completed keys kept in memory.
+     * @param retentionHours How long keys are kept in the database before being purged.
+     * @param claimTimeoutSeconds How long an incomplete claim is honoured before it is treated as abandoned.
+     */
+    public IdempotencyService(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            BookRepository bookRepository,
+            @Value("${idempotency.cache.max-entries:10000}") int maxCachedKeys,
+            @Value("${idempotency.retention-hours:24}") long retentionHours,
+            @Value("${idempotency.claim-timeout-seconds:60}") long claimTimeoutSeconds) {
+
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.bookRepository = bookRepository;
+        this.retentionHours = retentionHours;
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+        this.completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletedKey> eldest) {
+                return size() > maxCachedKeys;
+            }
+        });
+    }
+
+    /**
+     * Runs the given create action at most once for the given key.
+     * Repeated calls with the same key and fingerprint return the current state of the book
+     * created by the first call.
+     *
+     * @param key The client supplied idempotency key.
+     * @param fingerprint A hash of the request payload, see {@link #fingerprint(MultipartFile, String...)}.
+     * @param createAction The action that creates and saves the book.
+     * @return The book created for this key, or empty if it has since been deleted.
+     * @throws IdempotencyKeyException With 422 if the key was used with a different payload,
+     *         or 409 if the first request with the key is still in progress on another replica.
+     */
+    public Optional<Book> execute(String key, String fingerprint, CreateAction createAction) {
+        CompletedKey cached = completed.get(key);
+        if (cached != null) {
+            checkFingerprint(cached.fingerprint(), fingerprint);
+            return bookRepository.findById(cached.bookId());
+        }
+
+        PendingKey pending = new PendingKey(fingerprint, new CompletableFuture<>());
+        PendingKey existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            checkFingerprint(existing.fingerprint(), fingerprint);
+            return bookRepository.findById(await(existing.bookId()));
+        }
+
+        try {
+            Optional<IdempotencyRecord> stored = findOrClaim(key, fingerprint);
+            Optional<Book> result;
+            UUID bookId;
+            if (stored.isPresent()) {
+                bookId = stored.get().getBookId();
+                result = bookRepository.findById(bookId);
+            } else {
+                Book created = create(key, createAction);
+                bookId = created.getId();
+                result = Optional.of(created);
+            }
+            completed.put(key, new CompletedKey(fingerprint, bookId));
+            pending.bookId().complete(bookId);
+            return result;
+        } catch (RuntimeException e) {
+            pending.bookId().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    /**
+     * Hashes the fields and uploaded file of a create request, so a key reused with a
+     * different payload can be detected.
+     *
+     * @param file The uploaded file, or null if none was sent.
+     * @param fields The request's form fields, in a fixed order.
+     * @return The SHA-256 hash of the request as 64 hex characters.
+     */
+    public static String fingerprint(MultipartFile file, String... fields) {
+        MessageDigest digest = sha256();
+        for (String field : fields) {
+            digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        if (file != null && !file.isEmpty()) {
+            try (InputStream in = file.getInputStream()) {
+                byte[] buffer = new byte[8192];
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read uploaded file", e);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Removes database records older than the configured retention period.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    /**
+     * Returns the completed record for the key, or claims the key and returns empty.
+     * The claim is inserted in its own short transaction, so no connection is held
+     * while the book's image is uploaded.
+     */
+    private Optional<IdempotencyRecord> findOrClaim(String key, String fingerprint) {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+            if (stored.isEmpty()) {
+                try {
+                    idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                            .idempotencyKey(key)
+                            .requestFingerprint(fingerprint)
+                            .build());
+                    return Optional.empty();
+                } catch (DataIntegrityViolationException e) {
+                    continue;
+                }
+            }
+
+            IdempotencyRecord record = stored.get();
+            checkFingerprint(record.getRequestFingerprint(), fingerprint);
+            if (record.getBookId() != null) {
+                return stored;
+            }
+            LocalDateTime cutoff = LocalDateTime.now().minusSeconds(claimTimeoutSeconds);
+            if (idempotencyRecordRepository.releaseAbandonedClaim(key, cutoff) == 0) {
+                throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                        "A request with this Idempotency-Key is still in progress");
+            }
+        }
+        throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is still in progress");
+    }
+
+    /**
+     * Runs the action for a claimed key, completing the claim in the book's transaction.
+     * If the action fails the claim is released so the client can retry.
+     */
+    private Book create(String key, CreateAction createAction) {
+        try {
+            return createAction.create(book -> {
+                if (idempotencyRecordRepository.completeClaim(key, book.getId()) == 0) {
+                    throw new IdempotencyKeyException(HttpStatus.CONFLICT,
+                            "The claim on this Idempotency-Key was taken over by another request");
+                }
+            });
+        } catch (RuntimeException e) {
+            try {
+                idempotencyRecordRepository.releaseClaim(key);
+            } catch (RuntimeException releaseFailure) {
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the request in flight with the same key and returns the ID of the book it created.
+     */
+    UUID await(CompletableFuture<UUID> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Rejects a request whose fingerprint differs from the one the key was first used with.
+     * Keys stored before fingerprints were recorded have an empty fingerprint and match any request.
+     */
+    private static void checkFingerprint(String expected, String actual) {
+        if (!expected.isEmpty() && !expected.equals(actual)) {
+            throw new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request");
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CompletedKey(String fingerprint, UUID bookId) {
+    }
+
+    private record PendingKey(String fingerprint, CompletableFuture<UUID> bookId) {
+    }
+}
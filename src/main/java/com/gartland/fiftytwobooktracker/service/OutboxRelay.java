@@ -0,0 +1,91 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.event.BookChangeEvent;
+import com.gartland.fiftytwobooktracker.event.OutboxSink;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import com.gartland.fiftytwobooktracker.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Background relay publishing pending outbox events to the configured sink in batches.
+ * Each batch is locked, published and marked as published in one transaction, so a failed
+ * publish leaves the batch pending and replicas never publish the same batch concurrently.
+ * Batches are not serialized, so events can reach the sink out of ID order; see {@link OutboxSink}.
+ */
+@Service
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long retentionHours;
+
+    /**
+     * Constructs the OutboxRelay with the specified configuration.
+     *
+     * @param outboxEventRepository The repository for outbox events.
+     * @param outboxSink The sink events are published to.
+     * @param transactionTemplate Template wrapping each batch in a transaction.
+     * @param batchSize The maximum number of events published per batch.
+     * @param maxBatchesPerRun The maximum number of batches published per relay run.
+     * @param retentionHours How long published events are kept before being purged.
+     */
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            OutboxSink outboxSink,
+            TransactionTemplate transactionTemplate,
+            @Value("${outbox.relay.batch-size:100}") int batchSize,
+            @Value("${outbox.relay.max-batches-per-run:10}") int maxBatchesPerRun,
+            @Value("${outbox.retention-hours:24}") long retentionHours) {
+
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retentionHours = retentionHours;
+    }
+
+    /**
+     * Publishes pending events until none are left or the per-run batch limit is reached.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:1000}")
+    public void publishPending() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer published = transactionTemplate.execute(status -> publishBatch());
+            if (published == null || published < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes published events older than the configured retention period.
+     */
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> pending = outboxEventRepository.lockPending(PageRequest.of(0, batchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        outboxSink.publish(pending.stream().map(BookChangeEvent::from).toList());
+
+        LocalDateTime now = LocalDateTime.now();
+        pending.forEach(event -> event.setPublishedAt(now));
+        return pending.size();
+    }
+}
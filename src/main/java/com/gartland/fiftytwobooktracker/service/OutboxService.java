@@ -0,0 +1,69 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gartland.fiftytwobooktracker.model.Book;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent.EventType;
+import com.gartland.fiftytwobooktracker.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Service for writing book change events to the transactional outbox.
+ * Events must be recorded inside the transaction that makes the change,
+ * so that a change is never committed without its event or vice versa.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs the OutboxService with the given repository and JSON mapper.
+     *
+     * @param outboxEventRepository The repository for outbox events.
+     * @param objectMapper The mapper used to serialize event payloads.
+     */
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records that a book was created or updated.
+     *
+     * @param eventType The kind of change.
+     * @param book The book after the change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(EventType eventType, Book book) {
+        try {
+            record(eventType, book.getId(), objectMapper.writeValueAsString(book));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize book change event", e);
+        }
+    }
+
+    /**
+     * Records that a book was deleted.
+     *
+     * @param id The ID of the deleted book.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(UUID id) {
+        record(EventType.BOOK_DELETED, id, objectMapper.createObjectNode().put("id", id.toString()).toString());
+    }
+
+    private void record(EventType eventType, UUID bookId, String payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .bookId(bookId)
+                .payload(payload)
+                .build());
+    }
+}
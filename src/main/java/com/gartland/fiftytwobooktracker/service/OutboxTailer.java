@@ -0,0 +1,106 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.event.BookChangeEvent;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import com.gartland.fiftytwobooktracker.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Background job feeding this replica's event stream connections from the outbox.
+ * Unlike the relay, which hands each batch to exactly one replica, every replica tails the
+ * outbox with its own in-memory cursor on the event ID, independently of published_at,
+ * so every connected client sees every change whichever replica it is connected to.
+ * <p>
+ * IDs are allocated when an event is inserted but become visible when its transaction commits,
+ * so a lower ID can appear after a higher one. When the next expected ID is missing the tailer
+ * waits up to {@code sse.tail-gap-grace-ms} for it before skipping it as rolled back,
+ * keeping the IDs sent to clients in increasing order.
+ */
+@Service
+public class OutboxTailer {
+
+    private static final long UNINITIALISED = -1;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final BookStreamService bookStreamService;
+    private final int batchSize;
+    private final long gapGraceNanos;
+    private final LongSupplier nanoClock;
+    private long cursor = UNINITIALISED;
+    private long gapId;
+    private long gapSeenAt;
+
+    /**
+     * Constructs the OutboxTailer with the specified configuration.
+     *
+     * @param outboxEventRepository The repository for outbox events.
+     * @param bookStreamService The service pushing events to this replica's connections.
+     * @param batchSize The maximum number of events read per query.
+     * @param gapGraceMs How long a missing event ID is waited for before it is skipped.
+     */
+    @Autowired
+    public OutboxTailer(
+            OutboxEventRepository outboxEventRepository,
+            BookStreamService bookStreamService,
+            @Value("${sse.tail-batch-size:100}") int batchSize,
+            @Value("${sse.tail-gap-grace-ms:2000}") long gapGraceMs) {
+        this(outboxEventRepository, bookStreamService, batchSize, gapGraceMs, System::nanoTime);
+    }
+
+    OutboxTailer(OutboxEventRepository outboxEventRepository, BookStreamService bookStreamService,
+                 int batchSize, long gapGraceMs, LongSupplier nanoClock) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.bookStreamService = bookStreamService;
+        this.batchSize = batchSize;
+        this.gapGraceNanos = TimeUnit.MILLISECONDS.toNanos(gapGraceMs);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Pushes events added since the last poll to this replica's connections.
+     * The first poll only positions the cursor at the newest event; clients catch up on
+     * older events by reconnecting with a Last-Event-ID header.
+     */
+    @Scheduled(fixedDelayString = "${sse.tail-interval-ms:500}")
+    public synchronized void poll() {
+        if (cursor == UNINITIALISED) {
+            cursor = outboxEventRepository.findMaxId();
+            bookStreamService.advanceTo(cursor);
+            return;
+        }
+
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, batchSize));
+            for (OutboxEvent event : batch) {
+                if (event.getId() > cursor + 1 && !gapExpired(cursor + 1)) {
+                    return;
+                }
+                bookStreamService.onBookChange(BookChangeEvent.from(event));
+                cursor = event.getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Returns whether the given missing ID has been missing for longer than the grace period.
+     * Every ID up to the next visible event was allocated before that event became visible,
+     * so once the first missing ID has expired the whole gap can be skipped.
+     */
+    private boolean gapExpired(long missingId) {
+        long now = nanoClock.getAsLong();
+        if (gapId != missingId) {
+            gapId = missingId;
+            gapSeenAt = now;
+        }
+        return now - gapSeenAt >= gapGraceNanos;
+    }
+}
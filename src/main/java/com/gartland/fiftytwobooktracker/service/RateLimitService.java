@@ -0,0 +1,218 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.exception.RateLimitExceededException;
+import com.gartland.fiftytwobooktracker.helper.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Service enforcing per-client rate limits and per-pod concurrency limits.
+ * Each expensive path has its own budget so that, for example, a burst of uploads
+ * cannot starve full listings. Limiter state is published as Micrometer metrics.
+ */
+@Service
+public class RateLimitService {
+
+    /**
+     * The independently limited paths. Defaults can be overridden with
+     * {@code rate-limit.<name>.capacity}, {@code .refill-per-second},
+     * {@code .max-concurrent} and {@code .acquire-timeout-ms}.
+     */
+    public enum Budget {
+        LIST("list", 20, 5, 32, 0),
+        UPLOAD("upload", 5, 1, 8, 0),
+        S3("s3", 0, 0, 8, 250);
+
+        private final String name;
+        private final long defaultCapacity;
+        private final double defaultRefillPerSecond;
+        private final int defaultMaxConcurrent;
+        private final long defaultAcquireTimeoutMs;
+
+        Budget(String name, long defaultCapacity, double defaultRefillPerSecond,
+               int defaultMaxConcurrent, long defaultAcquireTimeoutMs) {
+            this.name = name;
+            this.defaultCapacity = defaultCapacity;
+            this.defaultRefillPerSecond = defaultRefillPerSecond;
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+            this.defaultAcquireTimeoutMs = defaultAcquireTimeoutMs;
+        }
+    }
+
+    /**
+     * A held concurrency slot, released when closed.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Map<Budget, Limiter> limiters = new EnumMap<>(Budget.class);
+    private final int maxTrackedClients;
+    private final LongSupplier nanoClock;
+
+    /**
+     * Constructs the RateLimitService from the {@code rate-limit.*} properties.
+     *
+     * @param environment The environment holding the limiter configuration.
+     * @param meterRegistry The registry the limiter metrics are published to.
+     */
+    @Autowired
+    public RateLimitService(Environment environment, MeterRegistry meterRegistry) {
+        this(environment, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitService(Environment environment, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.maxTrackedClients = environment.getProperty("rate-limit.max-tracked-clients", Integer.class, 10000);
+        for (Budget budget : Budget.values()) {
+            Limiter limiter = new Limiter(environment, budget, nanoClock);
+            limiters.put(budget, limiter);
+            registerMetrics(meterRegistry, budget, limiter);
+        }
+    }
+
+    /**
+     * Takes one token from the client's bucket for the given budget.
+     * Budgets configured with a capacity of zero are not rate limited.
+     * Once {@code rate-limit.max-tracked-clients} clients are tracked, new clients share a single
+     * overflow bucket until idle buckets are evicted, so memory stays bounded under a flood of addresses.
+     *
+     * @param budget The budget being consumed.
+     * @param clientId The identifier of the calling client.
+     * @throws RateLimitExceededException with 429 Too Many Requests if the bucket is empty.
+     */
+    public void checkRate(Budget budget, String clientId) {
+        Limiter limiter = limiters.get(budget);
+        if (limiter.capacity <= 0) {
+            return;
+        }
+
+        TokenBucket bucket = limiter.buckets.get(clientId);
+        if (bucket == null) {
+            bucket = limiter.buckets.size() >= maxTrackedClients
+                    ? limiter.overflowBucket
+                    : limiter.buckets.computeIfAbsent(clientId, id -> limiter.newBucket(nanoClock));
+        }
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            limiter.rateRejections.increment();
+            throw new RateLimitExceededException(HttpStatus.TOO_MANY_REQUESTS,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)),
+                    "Rate limit exceeded for " + budget.name);
+        }
+    }
+
+    /**
+     * Acquires a concurrency slot for the given budget, waiting at most the configured timeout.
+     *
+     * @param budget The budget being consumed.
+     * @return A permit that must be closed once the work is finished. Closing it more than once has no effect.
+     * @throws RateLimitExceededException with 503 Service Unavailable if no slot became free.
+     */
+    public Permit acquire(Budget budget) {
+        Limiter limiter = limiters.get(budget);
+        boolean acquired;
+        try {
+            acquired = limiter.acquireTimeoutMs > 0
+                    ? limiter.slots.tryAcquire(limiter.acquireTimeoutMs, TimeUnit.MILLISECONDS)
+                    : limiter.slots.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            limiter.concurrencyRejections.increment();
+            throw new RateLimitExceededException(HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "Too many concurrent " + budget.name + " requests");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.slots.release();
+            }
+        };
+    }
+
+    /**
+     * Drops buckets of clients that have been idle long enough for their bucket to refill,
+     * keeping the per-client state bounded.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        for (Limiter limiter : limiters.values()) {
+            limiter.buckets.values().removeIf(TokenBucket::isFull);
+        }
+    }
+
+    private static void registerMetrics(MeterRegistry meterRegistry, Budget budget, Limiter limiter) {
+        Gauge.builder("ratelimit.concurrency.available", limiter.slots, Semaphore::availablePermits)
+                .tag("budget", budget.name)
+                .description("Free concurrency slots")
+                .register(meterRegistry);
+        Gauge.builder("ratelimit.concurrency.active", limiter, l -> l.maxConcurrent - l.slots.availablePermits())
+                .tag("budget", budget.name)
+                .description("Requests currently holding a concurrency slot")
+                .register(meterRegistry);
+        Gauge.builder("ratelimit.clients", limiter.buckets, Map::size)
+                .tag("budget", budget.name)
+                .description("Clients with a tracked token bucket")
+                .register(meterRegistry);
+        limiter.rateRejections = Counter.builder("ratelimit.rejected")
+                .tag("budget", budget.name)
+                .tag("reason", "rate")
+                .register(meterRegistry);
+        limiter.concurrencyRejections = Counter.builder("ratelimit.rejected")
+                .tag("budget", budget.name)
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Limiter state for a single budget.
+     */
+    private static final class Limiter {
+        private final long capacity;
+        private final double refillPerSecond;
+        private final int maxConcurrent;
+        private final long acquireTimeoutMs;
+        private final Semaphore slots;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final TokenBucket overflowBucket;
+        private Counter rateRejections;
+        private Counter concurrencyRejections;
+
+        private Limiter(Environment environment, Budget budget, LongSupplier nanoClock) {
+            String prefix = "rate-limit." + budget.name + ".";
+            this.capacity = environment.getProperty(prefix + "capacity", Long.class, budget.defaultCapacity);
+            this.refillPerSecond = environment.getProperty(prefix + "refill-per-second", Double.class,
+                    budget.defaultRefillPerSecond);
+            this.maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class,
+                    budget.defaultMaxConcurrent);
+            this.acquireTimeoutMs = environment.getProperty(prefix + "acquire-timeout-ms", Long.class,
+                    budget.defaultAcquireTimeoutMs);
+            this.slots = new Semaphore(maxConcurrent);
+            this.overflowBucket = newBucket(nanoClock);
+        }
+
+        private TokenBucket newBucket(LongSupplier nanoClock) {
+            return new TokenBucket(capacity, refillPerSecond, nanoClock);
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class S3Service {
 
     private final String bucketName;
     private final S3Client s3Client;
+    private final RateLimitService rateLimitService;
 
     /**
      * Constructs the S3Service with the specified configuration.
@@ -32,14 +33,17 @@ public class S3Service {
      * @param region     The AWS region.
      * @param accessKey  The AWS access key.
      * @param secretKey  The AWS secret key.
+     * @param rateLimitService The service limiting concurrent S3 uploads.
      */
     public S3Service(
             @Value("${aws.s3.bucket-name}") String bucketName,
             @Value("${aws.region}") String region,
             @Value("${aws.access-key}") String accessKey,
-            @Value("${aws.secret-key}") String secretKey) {
+            @Value("${aws.secret-key}") String secretKey,
+            RateLimitService rateLimitService) {
 
         this.bucketName = bucketName;
+        this.rateLimitService = rateLimitService;
         this.s3Client = S3Client.builder()
                 .region(Region.of(region))
                 .credentialsProvider(
@@ -49,6 +53,7 @@ public class S3Service {
 
     /**
      * Uploads a file to S3 using Path.
+     * The number of concurrent uploads per pod is bounded by the S3 rate limit budget.
      *
      * @param file The MultipartFile to upload.
      * @return The URL of the uploaded file.
@@ -57,7 +62,7 @@ public class S3Service {
         String key = "images/" + UUID.randomUUID() + "-" + file.getOriginalFilename();
         Path tempFile;
 
-        try {
+        try (RateLimitService.Permit permit = rateLimitService.acquire(RateLimitService.Budget.S3)) {
             // Create a temporary file
             tempFile = Files.createTempFile(UUID.randomUUID().toString(), file.getOriginalFilename());
             Files.copy(file.getInputStream(), tempFile, StandardCopyOption.REPLACE_EXISTING);
@@ -0,0 +1,36 @@
+-- Initial schema, matching the tables previously created by ddl-auto=update.
+-- IF NOT EXISTS lets this run against databases baselined before Flyway was introduced.
+
+CREATE TABLE IF NOT EXISTS books (
+    id         UUID         NOT NULL PRIMARY KEY,
+    title      VARCHAR(255) NOT NULL,
+    author     VARCHAR(255) NOT NULL,
+    status     VARCHAR(255) NOT NULL CHECK (status IN ('TO_READ', 'READING', 'COMPLETED')),
+    image_url  VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    book_id         UUID         NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL
+);
+
+-- Supports the scheduled purge of expired keys.
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    book_id      UUID         NOT NULL,
+    event_type   VARCHAR(255) NOT NULL CHECK (event_type IN ('BOOK_CREATED', 'BOOK_UPDATED', 'BOOK_DELETED')),
+    payload      TEXT         NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    published_at TIMESTAMP(6)
+);
+
+-- The relay polls pending events in id order; keeping only pending rows keeps this index tiny.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (id) WHERE published_at IS NULL;
+
+-- Supports the scheduled purge of published events.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published_at ON outbox_events (published_at);
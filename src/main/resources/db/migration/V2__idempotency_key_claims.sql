@@ -0,0 +1,6 @@
+-- Idempotency keys are now claimed before the book is created and tied to the request payload.
+
+ALTER TABLE idempotency_keys ALTER COLUMN book_id DROP NOT NULL;
+
+ALTER TABLE idempotency_keys ADD COLUMN request_fingerprint VARCHAR(64) NOT NULL DEFAULT '';
+ALTER TABLE idempotency_keys ALTER COLUMN request_fingerprint DROP DEFAULT;
@@ -2,6 +2,7 @@ package com.gartland.fiftytwobooktracker.controller;
 
 import com.gartland.fiftytwobooktracker.model.Book;
 import com.gartland.fiftytwobooktracker.service.BookService;
+import com.gartland.fiftytwobooktracker.service.IdempotencyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,6 +19,8 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -30,6 +33,9 @@ public class BookControllerTest {
     @Mock
     private BookService bookService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @InjectMocks
     private BookController bookController;
 
@@ -60,12 +66,66 @@ public class BookControllerTest {
         MultipartFile mockFile = mock(MultipartFile.class);
 
         // Act
-        ResponseEntity<Book> response = bookController.createBook(title, author, status, mockFile);
+        ResponseEntity<Book> response = bookController.createBook(title, author, status, mockFile, null);
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertEquals(saved, response.getBody());
         verify(bookService, times(1)).saveBook(any(Book.class), any(MultipartFile.class));
+        verify(idempotencyService, never()).execute(anyString(), anyString(), any());
+    }
+
+    /**
+     * Tests creating a book with an Idempotency-Key header.
+     * Verifies that the save is routed through the IdempotencyService.
+     */
+    @Test
+    public void testCreateBook_WithIdempotencyKey() {
+        // Arrange
+        Book saved = Book.builder().title("T").author("A").status(Book.Status.TO_READ).build();
+        when(bookService.saveBook(any(Book.class), any(), any())).thenReturn(saved);
+        String fingerprint = IdempotencyService.fingerprint(null, "T", "A", "TO_READ");
+        when(idempotencyService.execute(eq("key-1"), eq(fingerprint), any())).thenAnswer(invocation ->
+                Optional.of(invocation.<IdempotencyService.CreateAction>getArgument(2).create(book -> { })));
+
+        // Act
+        ResponseEntity<Book> response = bookController.createBook("T", "A", "TO_READ", null, "key-1");
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(saved, response.getBody());
+        verify(idempotencyService, times(1)).execute(eq("key-1"), eq(fingerprint), any());
+        verify(bookService, times(1)).saveBook(any(Book.class), any(), any());
+    }
+
+    /**
+     * Tests replaying an Idempotency-Key whose book has since been deleted.
+     * Verifies that a GONE status is returned.
+     */
+    @Test
+    public void testCreateBook_WithIdempotencyKey_BookDeleted() {
+        // Arrange
+        when(idempotencyService.execute(eq("key-1"), anyString(), any())).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<Book> response = bookController.createBook("T", "A", "TO_READ", null, "key-1");
+
+        // Assert
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+    }
+
+    /**
+     * Tests creating a book with a blank Idempotency-Key header.
+     * Verifies that a BAD_REQUEST status is returned and nothing is saved.
+     */
+    @Test
+    public void testCreateBook_WithBlankIdempotencyKey() {
+        // Act
+        ResponseEntity<Book> response = bookController.createBook("T", "A", "TO_READ", null, " ");
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(bookService, never()).saveBook(any(Book.class), any());
     }
 
     /**
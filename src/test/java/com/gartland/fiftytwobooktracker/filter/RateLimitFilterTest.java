@@ -0,0 +1,133 @@
+package com.gartland.fiftytwobooktracker.filter;
+
+import com.gartland.fiftytwobooktracker.exception.RateLimitExceededException;
+import com.gartland.fiftytwobooktracker.service.RateLimitService;
+import com.gartland.fiftytwobooktracker.service.RateLimitService.Budget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the RateLimitFilter class.
+ */
+class RateLimitFilterTest {
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private FilterChain chain;
+
+    @Mock
+    private RateLimitService.Permit permit;
+
+    @InjectMocks
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rateLimitService.acquire(any(Budget.class))).thenReturn(permit);
+    }
+
+    /**
+     * Test that listing books consumes the list budget and releases its permit.
+     */
+    @Test
+    void doFilter_ShouldApplyListBudget_ForGetAllBooks() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        verify(rateLimitService, times(1)).checkRate(Budget.LIST, "10.0.0.1");
+        verify(chain, times(1)).doFilter(request, response);
+        verify(permit, times(1)).close();
+    }
+
+    /**
+     * Test that a rejected upload is answered with 429 and Retry-After without reaching the controller.
+     */
+    @Test
+    void doFilter_ShouldRejectUpload_WhenRateLimited() throws Exception {
+        doThrow(new RateLimitExceededException(HttpStatus.TOO_MANY_REQUESTS, 3, "limited"))
+                .when(rateLimitService).checkRate(eq(Budget.UPLOAD), any());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/books");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("3", response.getHeader("Retry-After"));
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    /**
+     * Test that rotating a spoofed X-Forwarded-For header does not give the client a fresh bucket.
+     */
+    @Test
+    void doFilter_ShouldIgnoreSpoofedForwardedFor_WhenIdentifyingClient() throws Exception {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.upload.capacity", "1")
+                .withProperty("rate-limit.upload.refill-per-second", "0.001");
+        RateLimitFilter filter = new RateLimitFilter(new RateLimitService(environment, new SimpleMeterRegistry()));
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(upload("203.0.113.7", "198.51.100.1"), first, chain);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(upload("203.0.113.7", "198.51.100.2"), second, chain);
+
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        verify(chain, times(1)).doFilter(any(), any());
+    }
+
+    /**
+     * Test that matrix parameters and encoded characters in the path do not bypass the budgets,
+     * since the dispatcher still routes such requests to the book endpoints.
+     */
+    @Test
+    void doFilter_ShouldApplyBudgets_ForPathVariantsRoutedToBooks() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(new MockHttpServletRequest("POST", "/api/books;x=1"), response, chain);
+        rateLimitFilter.doFilter(new MockHttpServletRequest("GET", "/api/%62ooks"), response, chain);
+
+        verify(rateLimitService, times(1)).checkRate(eq(Budget.UPLOAD), any());
+        verify(rateLimitService, times(1)).checkRate(eq(Budget.LIST), any());
+    }
+
+    /**
+     * Test that single book lookups are not limited.
+     */
+    @Test
+    void doFilter_ShouldPassThrough_ForUnlimitedEndpoints() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        rateLimitFilter.doFilter(request, response, chain);
+
+        verify(rateLimitService, never()).checkRate(any(), any());
+        verify(chain, times(1)).doFilter(request, response);
+    }
+
+    private static MockHttpServletRequest upload(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/books");
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        return request;
+    }
+}
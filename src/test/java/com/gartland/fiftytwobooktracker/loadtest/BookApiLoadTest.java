@@ -0,0 +1,314 @@
+package com.gartland.fiftytwobooktracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gartland.fiftytwobooktracker.service.S3Service;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test harness measuring throughput and latency of each book endpoint.
+ * Runs the prod profile, including Flyway migrations and Hikari settings, against an
+ * embedded PostgreSQL, with S3 mocked out.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pload-test}. The run can be tuned with
+ * {@code -Dloadtest.concurrency}, {@code -Dloadtest.duration-seconds} and {@code -Dloadtest.warmup-seconds}.
+ * <p>
+ * The context is closed when the class finishes, and PostgreSQL is stopped as one of its beans after
+ * the data source, so the scheduled outbox jobs never run against a stopped database.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"prod", "loadtest"})
+@DirtiesContext
+class BookApiLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 3);
+    private static final String BOUNDARY = "loadtest-" + UUID.randomUUID();
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private S3Service s3Service;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @TestConfiguration
+    static class PostgresLifecycle {
+
+        /**
+         * Hands the embedded PostgreSQL to the context, which closes it on shutdown.
+         */
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() {
+            return POSTGRES;
+        }
+
+        /**
+         * Makes the data source depend on PostgreSQL, so the context closes the pool, and
+         * everything using it, before stopping the database.
+         */
+        @Bean
+        static BeanFactoryPostProcessor dataSourceDependsOnPostgres() {
+            return beanFactory -> beanFactory.getBeanDefinition("dataSource").setDependsOn("embeddedPostgres");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(s3Service.uploadFile(any())).thenReturn("https://load-test-bucket.s3.amazonaws.com/images/cover.jpg");
+    }
+
+    /**
+     * Drives each endpoint in turn and prints throughput and latency percentiles.
+     * Fails if any request returned an unexpected status.
+     */
+    @Test
+    void measureEndpoints() throws Exception {
+        run("warmup", WARMUP_SECONDS, this::createBook);
+        run("warmup", WARMUP_SECONDS, this::listBooks);
+
+        List<Result> results = new ArrayList<>();
+        results.add(run("POST /api/books", DURATION_SECONDS, this::createBook));
+        results.add(run("GET /api/books", DURATION_SECONDS, this::listBooks));
+
+        List<String> ids = bookIds();
+        results.add(run("GET /api/books/{id}", DURATION_SECONDS,
+                () -> getBook(ids.get(ThreadLocalRandom.current().nextInt(ids.size())))));
+
+        Queue<String> toDelete = new ConcurrentLinkedQueue<>(ids);
+        results.add(run("DELETE /api/books/{id}", DURATION_SECONDS, () -> {
+            String id = toDelete.poll();
+            return id == null ? null : deleteBook(id);
+        }));
+
+        System.out.printf("%nLoad test: concurrency=%d, duration=%ds per endpoint%n", CONCURRENCY, DURATION_SECONDS);
+        System.out.printf("%-24s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        results.forEach(Result::print);
+
+        results.forEach(result -> assertEquals(0, result.errors, result.name + " returned errors"));
+    }
+
+    /**
+     * Runs the given call from CONCURRENCY threads until the duration elapses
+     * or the call signals that it has no more work by returning null.
+     */
+    private Result run(String name, int seconds, Callable<Boolean> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        try {
+            List<Worker> workers = new ArrayList<>();
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                Worker worker = new Worker(call, deadline);
+                workers.add(worker);
+                futures.add(executor.submit(worker));
+            }
+
+            List<long[]> latencies = new ArrayList<>();
+            int errors = 0;
+            for (int i = 0; i < CONCURRENCY; i++) {
+                latencies.add(futures.get(i).get());
+                errors += workers.get(i).errors;
+            }
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+            return new Result(name, merge(latencies), errors, elapsedSeconds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Boolean createBook() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        writeField(body, "title", "Load Test Book");
+        writeField(body, "author", "Load Test Author");
+        writeField(body, "status", "READING");
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"imageFile\"; filename=\"cover.jpg\"\r\n"
+                + "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(new byte[16 * 1024]);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = request("/api/books")
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        return send(request) == 201;
+    }
+
+    private Boolean listBooks() throws Exception {
+        return send(request("/api/books").GET().build()) == 200;
+    }
+
+    private Boolean getBook(String id) throws Exception {
+        return send(request("/api/books/" + id).GET().build()) == 200;
+    }
+
+    private Boolean deleteBook(String id) throws Exception {
+        return send(request("/api/books/" + id).DELETE().build()) == 204;
+    }
+
+    private List<String> bookIds() throws Exception {
+        HttpResponse<String> response = httpClient.send(request("/api/books").GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<String> ids = new ArrayList<>();
+        for (JsonNode book : objectMapper.readTree(response.body())) {
+            ids.add(book.get("id").asText());
+        }
+        return ids;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static void writeField(ByteArrayOutputStream body, String name, String value) {
+        body.writeBytes(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long[] merge(List<long[]> latencies) {
+        long[] merged = latencies.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start embedded PostgreSQL", e);
+        }
+    }
+
+    /**
+     * Issues calls until the deadline, recording the latency of each one.
+     */
+    private static final class Worker implements Callable<long[]> {
+        private final Callable<Boolean> call;
+        private final long deadline;
+        private int errors;
+
+        private Worker(Callable<Boolean> call, long deadline) {
+            this.call = call;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long[] call() {
+            long[] latencies = new long[1024];
+            int count = 0;
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                Boolean ok;
+                try {
+                    ok = call.call();
+                } catch (Exception e) {
+                    ok = false;
+                }
+                if (ok == null) {
+                    break;
+                }
+                if (!ok) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+            return Arrays.copyOf(latencies, count);
+        }
+    }
+
+    /**
+     * Aggregated measurements for one endpoint.
+     */
+    private record Result(String name, long[] latencies, int errors, double elapsedSeconds) {
+
+        private void print() {
+            System.out.printf("%-24s %10d %10.1f %10.2f %10.2f %10.2f %8d%n",
+                    name,
+                    latencies.length,
+                    latencies.length / elapsedSeconds,
+                    percentile(0.50),
+                    percentile(0.99),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6,
+                    errors);
+        }
+
+        private double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.gartland.fiftytwobooktracker.service;
 
 import com.gartland.fiftytwobooktracker.model.Book;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent.EventType;
 import com.gartland.fiftytwobooktracker.repository.BookRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,11 +9,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Collections;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,6 +35,12 @@ class BookServiceTest {
     @Mock
     private S3Service s3Service;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private BookService bookService;
 
@@ -119,6 +130,48 @@ class BookServiceTest {
         verify(bookRepository, times(1)).findById(bookId);
     }
 
+    /**
+     * Test that saving a new book records a BOOK_CREATED event.
+     */
+    @Test
+    void saveBook_ShouldRecordCreatedEvent_WhenBookIsNew() {
+        Book newBook = Book.builder().title("New").author("Author").status(Book.Status.TO_READ).build();
+        when(bookRepository.save(newBook)).thenReturn(testBook);
+
+        bookService.saveBook(newBook, null);
+
+        verify(outboxService, times(1)).recordChange(EventType.BOOK_CREATED, testBook);
+    }
+
+    /**
+     * Test that saving an existing book records a BOOK_UPDATED event.
+     */
+    @Test
+    void saveBook_ShouldRecordUpdatedEvent_WhenBookExists() {
+        when(bookRepository.save(testBook)).thenReturn(testBook);
+
+        bookService.saveBook(testBook, null);
+
+        verify(outboxService, times(1)).recordChange(EventType.BOOK_UPDATED, testBook);
+    }
+
+    /**
+     * Test that the callback runs inside the save transaction with the saved book.
+     */
+    @Test
+    void saveBook_ShouldRunCallback_InSaveTransaction() {
+        when(bookRepository.save(testBook)).thenReturn(testBook);
+        ArgumentCaptor<Book> captor = ArgumentCaptor.forClass(Book.class);
+        @SuppressWarnings("unchecked")
+        Consumer<Book> callback = mock(Consumer.class);
+
+        bookService.saveBook(testBook, null, callback);
+
+        verify(callback, times(1)).accept(captor.capture());
+        assertEquals(testBook, captor.getValue());
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
     /**
      * Test for deleting a book by its ID.
      */
@@ -126,5 +179,6 @@ class BookServiceTest {
     void deleteBook_ShouldDeleteBook() {
         bookService.deleteBook(bookId);
         verify(bookRepository, times(1)).deleteById(bookId);
+        verify(outboxService, times(1)).recordDeletion(bookId);
     }
 }
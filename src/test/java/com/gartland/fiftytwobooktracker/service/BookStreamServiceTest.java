@@ -0,0 +1,270 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.event.BookChangeEvent;
+import com.gartland.fiftytwobooktracker.exception.RateLimitExceededException;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent.EventType;
+import com.gartland.fiftytwobooktracker.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the BookStreamService class.
+ */
+class BookStreamServiceTest {
+
+    private final List<Runnable> pendingDispatches = new ArrayList<>();
+    private final AtomicLong clock = new AtomicLong(1);
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxEventRepository outboxEventRepository;
+    private BookStreamService bookStreamService;
+    private SseEmitter emitter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        bookStreamService = spy(new BookStreamService(meterRegistry, outboxEventRepository, pendingDispatches::add,
+                2, 4, 1000, 500, clock::get));
+        emitter = mock(SseEmitter.class);
+        doReturn(emitter).when(bookStreamService).createEmitter();
+    }
+
+    /**
+     * Test that a book change is written to a connected client.
+     */
+    @Test
+    void onBookChange_ShouldSendEvent_ToSubscriber() throws IOException {
+        bookStreamService.subscribe(null);
+
+        bookStreamService.onBookChange(changeEvent(1L));
+        runDispatches();
+
+        verify(emitter, times(2)).send(anySet());
+        assertEquals(1.0, meterRegistry.get("sse.connections").gauge().value());
+    }
+
+    /**
+     * Test that a client whose buffer overflows is disconnected by its dispatcher.
+     */
+    @Test
+    void onBookChange_ShouldEvictSlowSubscriber_WhenBufferIsFull() throws IOException {
+        bookStreamService.subscribe(null);
+
+        for (int i = 1; i <= 4; i++) {
+            bookStreamService.onBookChange(changeEvent(i));
+        }
+        verify(emitter, never()).complete();
+        runDispatches();
+
+        verify(emitter, never()).send(anySet());
+        verify(emitter, times(1)).complete();
+        assertEquals(0.0, meterRegistry.get("sse.connections").gauge().value());
+        assertEquals(1.0, meterRegistry.get("sse.evictions").counter().count());
+    }
+
+    /**
+     * Test that a client is dropped when writing to it fails.
+     */
+    @Test
+    void onBookChange_ShouldDropSubscriber_WhenSendFails() throws IOException {
+        doThrow(new IOException("broken pipe")).when(emitter).send(anySet());
+        bookStreamService.subscribe(null);
+
+        runDispatches();
+
+        assertEquals(0.0, meterRegistry.get("sse.connections").gauge().value());
+    }
+
+    /**
+     * Test that a client whose write is stuck does not hold up other clients, is evicted by the
+     * watchdog, and is completed by its own dispatcher once the write returns.
+     * The stuck emitter is not touched while its write is blocked, since its methods share its monitor.
+     */
+    @Test
+    void evictStuckWriters_ShouldEvictBlockedSubscriber_WithoutBlockingOthers() throws Exception {
+        SseEmitter stuckEmitter = mock(SseEmitter.class);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        AtomicInteger completions = new AtomicInteger();
+        doAnswer(invocation -> completions.incrementAndGet()).when(stuckEmitter).complete();
+        doAnswer(invocation -> {
+            writing.countDown();
+            unblock.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(stuckEmitter).send(anySet());
+        doReturn(stuckEmitter, emitter).when(bookStreamService).createEmitter();
+        bookStreamService.subscribe(null);
+        Runnable stuckDispatch = pendingDispatches.remove(0);
+        bookStreamService.subscribe(null);
+
+        Thread stuckThread = new Thread(stuckDispatch);
+        stuckThread.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        bookStreamService.onBookChange(changeEvent(1L));
+        runDispatches();
+        verify(emitter, times(2)).send(anySet());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        bookStreamService.evictStuckWriters();
+        assertEquals(1.0, meterRegistry.get("sse.connections").gauge().value());
+        assertEquals(1.0, meterRegistry.get("sse.evictions").counter().count());
+        assertEquals(0, completions.get());
+
+        unblock.countDown();
+        stuckThread.join(5000);
+        assertEquals(1, completions.get());
+        verify(stuckEmitter, times(1)).send(anySet());
+    }
+
+    /**
+     * Test that heartbeats are only queued for idle connections.
+     * The first heartbeat fires while the connected comment is still queued and must be skipped.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendHeartbeats_ShouldSkipSubscribers_WithPendingEvents() throws IOException {
+        bookStreamService.subscribe(null);
+
+        bookStreamService.sendHeartbeats();
+        runDispatches();
+        verify(emitter, times(1)).send(anySet());
+
+        bookStreamService.sendHeartbeats();
+        runDispatches();
+
+        ArgumentCaptor<Set<DataWithMediaType>> captor = ArgumentCaptor.forClass(Set.class);
+        verify(emitter, times(2)).send(captor.capture());
+        assertTrue(containsText(captor.getAllValues().get(0), ":connected"));
+        assertTrue(containsText(captor.getAllValues().get(1), ":heartbeat"));
+    }
+
+    /**
+     * Test that a resuming client is replayed the events it missed, followed by live events
+     * without duplicates.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void subscribe_ShouldReplayMissedEvents_WhenResumingFromLastEventId() throws IOException {
+        bookStreamService.onBookChange(changeEvent(3L));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(2L), outboxEvent(3L), outboxEvent(4L)));
+
+        bookStreamService.subscribe(1L);
+        bookStreamService.onBookChange(changeEvent(3L));
+        bookStreamService.onBookChange(changeEvent(4L));
+        runDispatches();
+
+        ArgumentCaptor<Set<DataWithMediaType>> captor = ArgumentCaptor.forClass(Set.class);
+        verify(emitter, times(4)).send(captor.capture());
+        List<Set<DataWithMediaType>> sent = captor.getAllValues();
+        assertTrue(containsText(sent.get(1), "id:2\n"));
+        assertTrue(containsText(sent.get(2), "id:3\n"));
+        assertTrue(containsText(sent.get(3), "id:4\n"));
+    }
+
+    /**
+     * Test that a client that missed more events than can be replayed is told to reset.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void subscribe_ShouldSendReset_WhenTooManyEventsWereMissed() throws IOException {
+        bookStreamService.advanceTo(10L);
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
+                .thenReturn(List.of(outboxEvent(2L), outboxEvent(3L), outboxEvent(4L)));
+
+        bookStreamService.subscribe(1L);
+        runDispatches();
+
+        ArgumentCaptor<Set<DataWithMediaType>> captor = ArgumentCaptor.forClass(Set.class);
+        verify(emitter, times(2)).send(captor.capture());
+        assertTrue(containsText(captor.getValue(), "event:reset\n"));
+        assertTrue(containsText(captor.getValue(), "id:10\n"));
+    }
+
+    /**
+     * Test that a connection whose replay fails is released instead of holding a slot
+     * and buffering live events forever.
+     */
+    @Test
+    void subscribe_ShouldReleaseConnection_WhenReplayFails() throws IOException {
+        bookStreamService.advanceTo(10L);
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class)))
+                .thenThrow(new CannotCreateTransactionException("connection timeout"));
+
+        assertThrows(CannotCreateTransactionException.class, () -> bookStreamService.subscribe(1L));
+        bookStreamService.onBookChange(changeEvent(11L));
+        bookStreamService.sendHeartbeats();
+        runDispatches();
+
+        assertEquals(0.0, meterRegistry.get("sse.connections").gauge().value());
+        verify(emitter, never()).send(anySet());
+        verify(emitter, times(1)).complete();
+    }
+
+    /**
+     * Test that new connections are refused once the per-pod limit is reached.
+     */
+    @Test
+    void subscribe_ShouldReject_WhenConnectionLimitIsReached() {
+        bookStreamService.subscribe(null);
+        bookStreamService.subscribe(null);
+
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> bookStreamService.subscribe(null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertTrue(e.getRetryAfterSeconds() > 0);
+    }
+
+    private void runDispatches() {
+        while (!pendingDispatches.isEmpty()) {
+            List<Runnable> dispatches = new ArrayList<>(pendingDispatches);
+            pendingDispatches.clear();
+            dispatches.forEach(Runnable::run);
+        }
+    }
+
+    private static boolean containsText(Set<DataWithMediaType> message, String text) {
+        return message.stream().anyMatch(data -> data.getData().toString().contains(text));
+    }
+
+    private static BookChangeEvent changeEvent(long id) {
+        return new BookChangeEvent(id, EventType.BOOK_CREATED, UUID.randomUUID(), "{}", LocalDateTime.now());
+    }
+
+    private static OutboxEvent outboxEvent(long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .bookId(UUID.randomUUID())
+                .eventType(EventType.BOOK_CREATED)
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,304 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.exception.IdempotencyKeyException;
+import com.gartland.fiftytwobooktracker.model.Book;
+import com.gartland.fiftytwobooktracker.model.IdempotencyRecord;
+import com.gartland.fiftytwobooktracker.repository.BookRepository;
+import com.gartland.fiftytwobooktracker.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the IdempotencyService class.
+ */
+class IdempotencyServiceTest {
+
+    private static final String FINGERPRINT = "fingerprint-1";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private IdempotencyService idempotencyService;
+
+    private Book testBook;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, bookRepository, 100, 24, 60);
+        testBook = Book.builder()
+                .id(UUID.randomUUID())
+                .title("Test Book")
+                .author("Test Author")
+                .status(Book.Status.TO_READ)
+                .build();
+        when(idempotencyRecordRepository.findById(any())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.completeClaim(any(), any())).thenReturn(1);
+        when(bookRepository.findById(testBook.getId())).thenReturn(Optional.of(testBook));
+    }
+
+    /**
+     * Test that the first request claims the key, runs the action and completes the claim.
+     */
+    @Test
+    void execute_ShouldClaimKeyAndComplete_WhenKeyIsNew() {
+        Optional<Book> result = idempotencyService.execute("key-1", FINGERPRINT, this::create);
+
+        assertEquals(Optional.of(testBook), result);
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+        verify(idempotencyRecordRepository, times(1)).completeClaim("key-1", testBook.getId());
+    }
+
+    /**
+     * Test that a retry is answered without running the action again.
+     */
+    @Test
+    void execute_ShouldNotRunActionAgain_WhenKeyWasCompleted() {
+        AtomicInteger calls = new AtomicInteger();
+        IdempotencyService.CreateAction action = onSaved -> {
+            calls.incrementAndGet();
+            return create(onSaved);
+        };
+        idempotencyService.execute("key-1", FINGERPRINT, action);
+
+        Optional<Book> result = idempotencyService.execute("key-1", FINGERPRINT, action);
+
+        assertEquals(Optional.of(testBook), result);
+        assertEquals(1, calls.get());
+        verify(idempotencyRecordRepository, times(1)).findById("key-1");
+    }
+
+    /**
+     * Test that a retry after the book was deleted on this replica reports it gone,
+     * rather than returning the book from memory.
+     */
+    @Test
+    void execute_ShouldReturnEmpty_WhenRetriedAfterDelete() {
+        idempotencyService.execute("key-1", FINGERPRINT, this::create);
+        when(bookRepository.findById(testBook.getId())).thenReturn(Optional.empty());
+
+        Optional<Book> result = idempotencyService.execute("key-1", FINGERPRINT, onSaved -> {
+            throw new AssertionError("action should not run");
+        });
+
+        assertEquals(Optional.empty(), result);
+    }
+
+    /**
+     * Test that a key completed by another replica is answered from the database.
+     */
+    @Test
+    void execute_ShouldReturnStoredBook_WhenKeyIsInDatabase() {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(completedRecord(testBook)));
+
+        Optional<Book> result = idempotencyService.execute("key-1", FINGERPRINT, onSaved -> {
+            throw new AssertionError("action should not run");
+        });
+
+        assertEquals(Optional.of(testBook), result);
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    /**
+     * Test that reusing a key with a different payload is rejected with 422.
+     */
+    @Test
+    void execute_ShouldReject_WhenFingerprintDiffers() {
+        idempotencyService.execute("key-1", FINGERPRINT, this::create);
+
+        IdempotencyKeyException e = assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute("key-1", "fingerprint-2", this::create));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatus());
+    }
+
+    /**
+     * Test that a retry of a key stored before fingerprints were recorded returns the stored book
+     * instead of being rejected as a different request.
+     */
+    @Test
+    void execute_ShouldReturnStoredBook_WhenKeyPredatesFingerprints() {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .idempotencyKey("key-1").requestFingerprint("").bookId(testBook.getId()).build()));
+
+        Optional<Book> result = idempotencyService.execute("key-1", FINGERPRINT, onSaved -> {
+            throw new AssertionError("action should not run");
+        });
+
+        assertEquals(Optional.of(testBook), result);
+        assertEquals(Optional.of(testBook), idempotencyService.execute("key-1", FINGERPRINT, this::create));
+    }
+
+    /**
+     * Test that a replica losing the race to claim the key never uploads, and returns the winner's book.
+     */
+    @Test
+    void execute_ShouldReturnWinningBook_WhenKeyIsClaimedConcurrently() {
+        Book winner = Book.builder().id(UUID.randomUUID()).title("Winner").build();
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(idempotencyRecordRepository.findById("key-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(completedRecord(winner)));
+        when(bookRepository.findById(winner.getId())).thenReturn(Optional.of(winner));
+
+        Optional<Book> result = idempotencyService.execute("key-1", FINGERPRINT, onSaved -> {
+            throw new AssertionError("action should not run");
+        });
+
+        assertEquals(Optional.of(winner), result);
+    }
+
+    /**
+     * Test that a retry while another replica holds a fresh claim is answered with 409.
+     */
+    @Test
+    void execute_ShouldConflict_WhenKeyIsClaimedByRequestInProgress() {
+        when(idempotencyRecordRepository.findById("key-1")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .idempotencyKey("key-1").requestFingerprint(FINGERPRINT).build()));
+
+        IdempotencyKeyException e = assertThrows(IdempotencyKeyException.class,
+                () -> idempotencyService.execute("key-1", FINGERPRINT, this::create));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+    }
+
+    /**
+     * Test that an abandoned claim is released and the key claimed again.
+     */
+    @Test
+    void execute_ShouldReclaimKey_WhenClaimWasAbandoned() {
+        when(idempotencyRecordRepository.findById("key-1"))
+                .thenReturn(Optional.of(IdempotencyRecord.builder()
+                        .idempotencyKey("key-1").requestFingerprint(FINGERPRINT).build()))
+                .thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.releaseAbandonedClaim(eq("key-1"), any())).thenReturn(1);
+
+        Optional<Book> result = idempotencyService.execute("key-1", FINGERPRINT, this::create);
+
+        assertEquals(Optional.of(testBook), result);
+        verify(idempotencyRecordRepository, times(1)).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    /**
+     * Test that a failed request releases its claim, so a retry runs the action again.
+     */
+    @Test
+    void execute_ShouldReleaseClaimAndRunAgain_WhenPreviousAttemptFailed() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-1", FINGERPRINT,
+                onSaved -> {
+                    throw new IllegalStateException("upload failed");
+                }));
+        verify(idempotencyRecordRepository, times(1)).releaseClaim("key-1");
+
+        Optional<Book> result = idempotencyService.execute("key-1", FINGERPRINT, this::create);
+
+        assertEquals(Optional.of(testBook), result);
+    }
+
+    /**
+     * Test that the fingerprint covers both the form fields and the file content.
+     */
+    @Test
+    void fingerprint_ShouldDiffer_WhenFieldsOrFileDiffer() {
+        MockMultipartFile file = new MockMultipartFile("imageFile", "cover.jpg", "image/jpeg", new byte[]{1, 2});
+        MockMultipartFile other = new MockMultipartFile("imageFile", "cover.jpg", "image/jpeg", new byte[]{1, 3});
+
+        String fingerprint = IdempotencyService.fingerprint(file, "T", "A", "TO_READ");
+
+        assertEquals(64, fingerprint.length());
+        assertEquals(fingerprint, IdempotencyService.fingerprint(file, "T", "A", "TO_READ"));
+        assertNotEquals(fingerprint, IdempotencyService.fingerprint(other, "T", "A", "TO_READ"));
+        assertNotEquals(fingerprint, IdempotencyService.fingerprint(file, "T", "A", "READING"));
+        assertNotEquals(IdempotencyService.fingerprint(null, "TA", ""), IdempotencyService.fingerprint(null, "T", "A"));
+    }
+
+    /**
+     * Test that concurrent requests with the same key are coalesced onto one execution.
+     * The first action only finishes once the second request is waiting on it, so the second
+     * request cannot be answered from the completed cache instead.
+     */
+    @Test
+    void execute_ShouldCoalesceConcurrentRequests_WithSameKey() throws Exception {
+        IdempotencyService spiedService = spy(idempotencyService);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch waiting = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            waiting.countDown();
+            return invocation.callRealMethod();
+        }).when(spiedService).await(any());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Optional<Book>> first = executor.submit(() -> spiedService.execute("key-1", FINGERPRINT,
+                    onSaved -> {
+                        calls.incrementAndGet();
+                        started.countDown();
+                        assertTrue(awaitQuietly(waiting));
+                        return create(onSaved);
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<Optional<Book>> second = executor.submit(() -> spiedService.execute("key-1", FINGERPRINT,
+                    onSaved -> {
+                        calls.incrementAndGet();
+                        return create(onSaved);
+                    }));
+
+            assertEquals(Optional.of(testBook), first.get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of(testBook), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            verify(spiedService, times(1)).await(any());
+            verify(idempotencyRecordRepository, times(1)).findById("key-1");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Book create(Consumer<Book> onSaved) {
+        onSaved.accept(testBook);
+        return testBook;
+    }
+
+    private static IdempotencyRecord completedRecord(Book book) {
+        return IdempotencyRecord.builder()
+                .idempotencyKey("key-1")
+                .requestFingerprint(FINGERPRINT)
+                .bookId(book.getId())
+                .build();
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.event.BookChangeEvent;
+import com.gartland.fiftytwobooktracker.event.OutboxSink;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import com.gartland.fiftytwobooktracker.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OutboxRelay class.
+ */
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxSink outboxSink;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        outboxRelay = new OutboxRelay(outboxEventRepository, outboxSink, transactionTemplate, 2, 3, 24);
+    }
+
+    /**
+     * Test that pending events are published in order and marked as published.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishPending_ShouldPublishAndMarkEvents() {
+        OutboxEvent event = pendingEvent(1L);
+        when(outboxEventRepository.lockPending(any(Pageable.class))).thenReturn(List.of(event));
+
+        outboxRelay.publishPending();
+
+        ArgumentCaptor<List<BookChangeEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxSink, times(1)).publish(captor.capture());
+        assertEquals(1L, captor.getValue().get(0).id());
+        assertEquals(event.getBookId(), captor.getValue().get(0).bookId());
+        assertNotNull(event.getPublishedAt());
+    }
+
+    /**
+     * Test that the relay keeps draining full batches up to the per-run limit.
+     */
+    @Test
+    void publishPending_ShouldDrainFullBatches_UpToLimit() {
+        when(outboxEventRepository.lockPending(any(Pageable.class)))
+                .thenAnswer(invocation -> List.of(pendingEvent(1L), pendingEvent(2L)));
+
+        outboxRelay.publishPending();
+
+        verify(outboxSink, times(3)).publish(any());
+    }
+
+    /**
+     * Test that nothing is published when no events are pending.
+     */
+    @Test
+    void publishPending_ShouldDoNothing_WhenNoEventsArePending() {
+        when(outboxEventRepository.lockPending(any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        outboxRelay.publishPending();
+
+        verify(outboxSink, never()).publish(any());
+    }
+
+    /**
+     * Test that events stay pending when the sink fails.
+     */
+    @Test
+    void publishPending_ShouldLeaveEventsPending_WhenSinkFails() {
+        OutboxEvent event = pendingEvent(1L);
+        when(outboxEventRepository.lockPending(any(Pageable.class))).thenReturn(List.of(event));
+        doThrow(new IllegalStateException("sink down")).when(outboxSink).publish(any());
+
+        assertThrows(IllegalStateException.class, () -> outboxRelay.publishPending());
+
+        assertNull(event.getPublishedAt());
+    }
+
+    private static OutboxEvent pendingEvent(long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .bookId(UUID.randomUUID())
+                .eventType(OutboxEvent.EventType.BOOK_CREATED)
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gartland.fiftytwobooktracker.model.Book;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent.EventType;
+import com.gartland.fiftytwobooktracker.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OutboxService class.
+ */
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        outboxService = new OutboxService(outboxEventRepository, new ObjectMapper().findAndRegisterModules());
+    }
+
+    /**
+     * Test that a change is stored with the book serialized as its payload.
+     */
+    @Test
+    void recordChange_ShouldStoreSerializedBook() {
+        Book book = Book.builder()
+                .id(UUID.randomUUID())
+                .title("Test Book")
+                .author("Test Author")
+                .status(Book.Status.READING)
+                .build();
+
+        outboxService.recordChange(EventType.BOOK_UPDATED, book);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        assertEquals(EventType.BOOK_UPDATED, captor.getValue().getEventType());
+        assertEquals(book.getId(), captor.getValue().getBookId());
+        assertTrue(captor.getValue().getPayload().contains("\"title\":\"Test Book\""));
+    }
+
+    /**
+     * Test that a deletion is stored with only the book ID as its payload.
+     */
+    @Test
+    void recordDeletion_ShouldStoreBookId() {
+        UUID id = UUID.randomUUID();
+
+        outboxService.recordDeletion(id);
+
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(captor.capture());
+        assertEquals(EventType.BOOK_DELETED, captor.getValue().getEventType());
+        assertEquals("{\"id\":\"" + id + "\"}", captor.getValue().getPayload());
+    }
+}
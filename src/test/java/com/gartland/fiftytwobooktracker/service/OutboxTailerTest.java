@@ -0,0 +1,138 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.event.BookChangeEvent;
+import com.gartland.fiftytwobooktracker.model.OutboxEvent;
+import com.gartland.fiftytwobooktracker.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the OutboxTailer class.
+ */
+class OutboxTailerTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private BookStreamService podA;
+
+    @Mock
+    private BookStreamService podB;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<OutboxEvent> visible = new ArrayList<>();
+    private OutboxTailer tailerA;
+    private OutboxTailer tailerB;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> visible.stream()
+                        .filter(event -> event.getId() > invocation.<Long>getArgument(0))
+                        .sorted(Comparator.comparing(OutboxEvent::getId))
+                        .limit(invocation.<Pageable>getArgument(1).getPageSize())
+                        .toList());
+        tailerA = new OutboxTailer(outboxEventRepository, podA, 2, 1000, clock::get);
+        tailerB = new OutboxTailer(outboxEventRepository, podB, 2, 1000, clock::get);
+        tailerA.poll();
+        tailerB.poll();
+    }
+
+    /**
+     * Test that every replica streams every event, including ones another replica's relay already published.
+     */
+    @Test
+    void poll_ShouldDeliverEveryEvent_ToEveryReplica() {
+        visible.add(event(1L, LocalDateTime.now()));
+        visible.add(event(2L, null));
+        visible.add(event(3L, null));
+
+        tailerA.poll();
+        tailerB.poll();
+
+        assertEquals(List.of(1L, 2L, 3L), deliveredIds(podA));
+        assertEquals(List.of(1L, 2L, 3L), deliveredIds(podB));
+    }
+
+    /**
+     * Test that each replica starts tailing at the newest event rather than replaying the outbox.
+     */
+    @Test
+    void poll_ShouldStartAtNewestEvent() {
+        when(outboxEventRepository.findMaxId()).thenReturn(5L);
+        visible.add(event(5L, null));
+        visible.add(event(6L, null));
+        OutboxTailer tailer = new OutboxTailer(outboxEventRepository, podA, 2, 1000, clock::get);
+
+        tailer.poll();
+        tailer.poll();
+
+        assertEquals(List.of(6L), deliveredIds(podA));
+    }
+
+    /**
+     * Test that an event committed after a later one is still delivered, in ID order.
+     */
+    @Test
+    void poll_ShouldWaitForMissingId_WhenEventCommitsLate() {
+        visible.add(event(2L, null));
+        tailerA.poll();
+        verify(podA, never()).onBookChange(any());
+
+        visible.add(event(1L, null));
+        tailerA.poll();
+
+        assertEquals(List.of(1L, 2L), deliveredIds(podA));
+    }
+
+    /**
+     * Test that a missing ID is skipped once the grace period has passed.
+     */
+    @Test
+    void poll_ShouldSkipMissingId_AfterGracePeriod() {
+        visible.add(event(3L, null));
+        tailerA.poll();
+        verify(podA, never()).onBookChange(any());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        tailerA.poll();
+
+        assertEquals(List.of(3L), deliveredIds(podA));
+    }
+
+    private static List<Long> deliveredIds(BookStreamService pod) {
+        ArgumentCaptor<BookChangeEvent> captor = ArgumentCaptor.forClass(BookChangeEvent.class);
+        verify(pod, atLeastOnce()).onBookChange(captor.capture());
+        return captor.getAllValues().stream().map(BookChangeEvent::id).toList();
+    }
+
+    private static OutboxEvent event(long id, LocalDateTime publishedAt) {
+        return OutboxEvent.builder()
+                .id(id)
+                .bookId(UUID.randomUUID())
+                .eventType(OutboxEvent.EventType.BOOK_CREATED)
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .publishedAt(publishedAt)
+                .build();
+    }
+}
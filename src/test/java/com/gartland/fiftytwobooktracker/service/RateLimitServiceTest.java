@@ -0,0 +1,142 @@
+package com.gartland.fiftytwobooktracker.service;
+
+import com.gartland.fiftytwobooktracker.exception.RateLimitExceededException;
+import com.gartland.fiftytwobooktracker.service.RateLimitService.Budget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the RateLimitService class.
+ */
+class RateLimitServiceTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.list.capacity", "2")
+                .withProperty("rate-limit.list.refill-per-second", "1")
+                .withProperty("rate-limit.upload.max-concurrent", "1")
+                .withProperty("rate-limit.s3.max-concurrent", "1")
+                .withProperty("rate-limit.s3.acquire-timeout-ms", "1")
+                .withProperty("rate-limit.max-tracked-clients", "2");
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitService = new RateLimitService(environment, meterRegistry, clock::get);
+    }
+
+    /**
+     * Test that a client may burst up to the bucket capacity and is then rejected with 429.
+     */
+    @Test
+    void checkRate_ShouldReject_WhenBucketIsEmpty() {
+        rateLimitService.checkRate(Budget.LIST, "client-a");
+        rateLimitService.checkRate(Budget.LIST, "client-a");
+
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> rateLimitService.checkRate(Budget.LIST, "client-a"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("ratelimit.rejected")
+                .tags("budget", "list", "reason", "rate").counter().count());
+    }
+
+    /**
+     * Test that clients have independent buckets and that buckets refill over time.
+     */
+    @Test
+    void checkRate_ShouldAllow_OtherClientsAndRefilledBuckets() {
+        rateLimitService.checkRate(Budget.LIST, "client-a");
+        rateLimitService.checkRate(Budget.LIST, "client-a");
+
+        assertDoesNotThrow(() -> rateLimitService.checkRate(Budget.LIST, "client-b"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertDoesNotThrow(() -> rateLimitService.checkRate(Budget.LIST, "client-a"));
+    }
+
+    /**
+     * Test that clients beyond the tracking cap share one overflow bucket instead of growing the map.
+     */
+    @Test
+    void checkRate_ShouldShareOverflowBucket_WhenClientCapIsReached() {
+        rateLimitService.checkRate(Budget.LIST, "client-a");
+        rateLimitService.checkRate(Budget.LIST, "client-b");
+
+        rateLimitService.checkRate(Budget.LIST, "client-c");
+        rateLimitService.checkRate(Budget.LIST, "client-d");
+        assertThrows(RateLimitExceededException.class, () -> rateLimitService.checkRate(Budget.LIST, "client-e"));
+
+        assertEquals(2.0, meterRegistry.get("ratelimit.clients").tag("budget", "list").gauge().value());
+        assertDoesNotThrow(() -> rateLimitService.checkRate(Budget.LIST, "client-a"));
+    }
+
+    /**
+     * Test that the concurrency limit rejects with 503 until a permit is released.
+     */
+    @Test
+    void acquire_ShouldReject_WhenAllSlotsAreHeld() {
+        RateLimitService.Permit permit = rateLimitService.acquire(Budget.UPLOAD);
+
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> rateLimitService.acquire(Budget.UPLOAD));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(0.0, meterRegistry.get("ratelimit.concurrency.available")
+                .tag("budget", "upload").gauge().value());
+
+        permit.close();
+        assertDoesNotThrow(() -> rateLimitService.acquire(Budget.UPLOAD).close());
+    }
+
+    /**
+     * Test that closing a permit twice releases only one slot.
+     */
+    @Test
+    void acquire_ShouldReleaseOnce_WhenPermitIsClosedTwice() {
+        RateLimitService.Permit permit = rateLimitService.acquire(Budget.UPLOAD);
+        permit.close();
+        permit.close();
+
+        RateLimitService.Permit held = rateLimitService.acquire(Budget.UPLOAD);
+        assertThrows(RateLimitExceededException.class, () -> rateLimitService.acquire(Budget.UPLOAD));
+        held.close();
+    }
+
+    /**
+     * Test that budgets are independent of each other.
+     */
+    @Test
+    void acquire_ShouldKeepBudgetsIndependent() {
+        RateLimitService.Permit upload = rateLimitService.acquire(Budget.UPLOAD);
+
+        assertDoesNotThrow(() -> rateLimitService.acquire(Budget.S3).close());
+        upload.close();
+    }
+
+    /**
+     * Test that buckets of idle clients are evicted once they have refilled.
+     */
+    @Test
+    void evictIdleClients_ShouldDropRefilledBuckets() {
+        rateLimitService.checkRate(Budget.LIST, "client-a");
+        assertEquals(1.0, meterRegistry.get("ratelimit.clients").tag("budget", "list").gauge().value());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        rateLimitService.evictIdleClients();
+
+        assertEquals(0.0, meterRegistry.get("ratelimit.clients").tag("budget", "list").gauge().value());
+    }
+}